@@ -0,0 +1,35 @@
+import mbstream.benchmark.StreamWorkloads;
+
+import java.util.List;
+
+/**
+ * In the default package, like MbStream.
+ */
+public class MbStreamWorkloads implements StreamWorkloads
+{
+	@Override public Object mapFilterReduce(List<String> numbers)
+	{
+		return new MbStream<>(numbers).map(Integer::parseInt).filter(e -> e % 2 == 0).reduce(0, Integer::sum);
+	}
+
+	@Override public Object mapFilterReduceParallel(List<String> numbers)
+	{
+		return new MbStream<>(numbers).parallel().map(Integer::parseInt).filter(e -> e % 2 == 0)
+				.reduce(0, Integer::sum);
+	}
+
+	@Override public Object mapFilterSum(List<String> numbers)
+	{
+		return new MbStream<>(numbers).mapToInt(Integer::parseInt).filter(e -> e % 2 == 0).sum();
+	}
+
+	@Override public Object distinctCount(List<Integer> numbers)
+	{
+		return new MbStream<>(numbers).distinct().count();
+	}
+
+	@Override public Object mapCollect(List<Integer> numbers)
+	{
+		return new MbStream<>(numbers).map(e -> e + 1).collect();
+	}
+}
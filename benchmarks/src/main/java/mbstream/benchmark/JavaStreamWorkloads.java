@@ -0,0 +1,32 @@
+package mbstream.benchmark;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JavaStreamWorkloads implements StreamWorkloads
+{
+	@Override public Object mapFilterReduce(List<String> numbers)
+	{
+		return numbers.stream().map(Integer::parseInt).filter(e -> e % 2 == 0).reduce(0, Integer::sum);
+	}
+
+	@Override public Object mapFilterReduceParallel(List<String> numbers)
+	{
+		return numbers.parallelStream().map(Integer::parseInt).filter(e -> e % 2 == 0).reduce(0, Integer::sum);
+	}
+
+	@Override public Object mapFilterSum(List<String> numbers)
+	{
+		return numbers.stream().mapToInt(Integer::parseInt).filter(e -> e % 2 == 0).sum();
+	}
+
+	@Override public Object distinctCount(List<Integer> numbers)
+	{
+		return numbers.stream().distinct().count();
+	}
+
+	@Override public Object mapCollect(List<Integer> numbers)
+	{
+		return numbers.stream().map(e -> e + 1).collect(Collectors.toList());
+	}
+}
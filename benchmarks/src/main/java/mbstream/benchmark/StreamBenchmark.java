@@ -0,0 +1,81 @@
+package mbstream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same workloads through MbStream and java.util.stream.
+ * <p>
+ * Every engine runs in its own fork, so the call sites inside one engine only ever see its own lambdas.
+ * Run with {@code -prof gc} to get the allocation rate, which also covers the worker threads of the
+ * parallel workloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StreamBenchmark
+{
+	@Param({"MbStream", "java.util.stream"})
+	private String engine;
+
+	@Param({"1000000"})
+	private int size;
+
+	private StreamWorkloads workloads;
+	private List<String> numbers;
+	private List<Integer> highCardinality;
+	private List<Integer> lowCardinality;
+
+	@Setup public void setup() throws ReflectiveOperationException
+	{
+		workloads = StreamWorkloads.forEngine(engine);
+
+		Random random = new Random(1337);
+		numbers = new ArrayList<>(size);
+		highCardinality = new ArrayList<>(size);
+		lowCardinality = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i)
+		{
+			numbers.add(Integer.toString(random.nextInt(1000)));
+			highCardinality.add(random.nextInt(size));
+			lowCardinality.add(random.nextInt(100));
+		}
+	}
+
+	@Benchmark public Object mapFilterReduce()
+	{
+		return workloads.mapFilterReduce(numbers);
+	}
+
+	@Benchmark public Object mapFilterReduceParallel()
+	{
+		return workloads.mapFilterReduceParallel(numbers);
+	}
+
+	@Benchmark public Object mapFilterSum()
+	{
+		return workloads.mapFilterSum(numbers);
+	}
+
+	@Benchmark public Object distinctHighCardinality()
+	{
+		return workloads.distinctCount(highCardinality);
+	}
+
+	@Benchmark public Object distinctLowCardinality()
+	{
+		return workloads.distinctCount(lowCardinality);
+	}
+
+	@Benchmark public Object mapCollect()
+	{
+		return workloads.mapCollect(highCardinality);
+	}
+}
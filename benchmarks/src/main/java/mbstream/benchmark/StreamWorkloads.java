@@ -0,0 +1,44 @@
+package mbstream.benchmark;
+
+import java.util.List;
+
+/**
+ * The workloads of {@link StreamBenchmark}, implemented once per stream engine.
+ * <p>
+ * MbStream is in the default package, which can't be used from a named package (and JMH doesn't allow
+ * benchmarks in the default package), so its implementation is loaded by name.
+ */
+public interface StreamWorkloads
+{
+	/**
+	 * Sum of the even numbers, like Test.main.
+	 */
+	Object mapFilterReduce(List<String> numbers);
+
+	Object mapFilterReduceParallel(List<String> numbers);
+
+	/**
+	 * Like mapFilterReduce, but with the primitive stream.
+	 */
+	Object mapFilterSum(List<String> numbers);
+
+	/**
+	 * @return number of distinct elements
+	 */
+	Object distinctCount(List<Integer> numbers);
+
+	Object mapCollect(List<Integer> numbers);
+
+	static StreamWorkloads forEngine(String engine) throws ReflectiveOperationException
+	{
+		switch (engine)
+		{
+		case "MbStream":
+			return (StreamWorkloads) Class.forName("MbStreamWorkloads").getDeclaredConstructor().newInstance();
+		case "java.util.stream":
+			return new JavaStreamWorkloads();
+		default:
+			throw new IllegalArgumentException("Unknown engine: " + engine);
+		}
+	}
+}
@@ -0,0 +1,4 @@
+public interface DoubleMbBifunction
+{
+	double accept(double t, double y);
+}
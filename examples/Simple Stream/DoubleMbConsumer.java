@@ -0,0 +1,4 @@
+public interface DoubleMbConsumer
+{
+	void accept(double t);
+}
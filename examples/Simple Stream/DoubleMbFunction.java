@@ -0,0 +1,4 @@
+public interface DoubleMbFunction
+{
+	double accept(double t);
+}
@@ -0,0 +1,4 @@
+public interface DoubleMbPredicate
+{
+	boolean accept(double t);
+}
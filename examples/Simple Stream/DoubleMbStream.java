@@ -0,0 +1,213 @@
+import java.util.*;
+
+/**
+ * MbStream for doubles, the elements are never boxed to Double.
+ */
+public class DoubleMbStream
+{
+	private final MbSupplier<PrimitiveIterator.OfDouble> source;
+
+	/**
+	 * Every stage only wraps the iterator of the previous stream, nothing is evaluated until a terminal
+	 * operation pulls the elements through all stages.
+	 *
+	 * @param source - creates a new iterator over the elements of this stream
+	 */
+	DoubleMbStream(MbSupplier<PrimitiveIterator.OfDouble> source)
+	{
+		this.source = source;
+	}
+
+	public DoubleMbStream(double[] array)
+	{
+		this(() -> new ArrayIterator(array));
+	}
+
+	public DoubleMbStream map(DoubleMbFunction mapper)
+	{
+		return new DoubleMbStream(() -> {
+			PrimitiveIterator.OfDouble it = source.accept();
+			return new PrimitiveIterator.OfDouble()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public double nextDouble()
+				{
+					return mapper.accept(it.nextDouble());
+				}
+			};
+		});
+	}
+
+	public DoubleMbStream filter(DoubleMbPredicate pred)
+	{
+		return new DoubleMbStream(() -> {
+			PrimitiveIterator.OfDouble it = source.accept();
+			return new PrimitiveIterator.OfDouble()
+			{
+				private double next;
+				private boolean hasNext = false;
+
+				@Override public boolean hasNext()
+				{
+					while (!hasNext && it.hasNext())
+					{
+						double t = it.nextDouble();
+						if (pred.accept(t))
+						{
+							next = t;
+							hasNext = true;
+						}
+					}
+					return hasNext;
+				}
+
+				@Override public double nextDouble()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					hasNext = false;
+					return next;
+				}
+			};
+		});
+	}
+
+	public DoubleMbStream limit(long maxSize)
+	{
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize cannot be negative");
+		return new DoubleMbStream(() -> {
+			PrimitiveIterator.OfDouble it = source.accept();
+			return new PrimitiveIterator.OfDouble()
+			{
+				private long remaining = maxSize;
+
+				@Override public boolean hasNext()
+				{
+					return remaining > 0 && it.hasNext();
+				}
+
+				@Override public double nextDouble()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					--remaining;
+					return it.nextDouble();
+				}
+			};
+		});
+	}
+
+	public void foreach(DoubleMbConsumer consumer)
+	{
+		PrimitiveIterator.OfDouble it = source.accept();
+		while (it.hasNext())
+			consumer.accept(it.nextDouble());
+	}
+
+	public double reduce(double neutral, DoubleMbBifunction bifun)
+	{
+		PrimitiveIterator.OfDouble it = source.accept();
+		while (it.hasNext())
+			neutral = bifun.accept(neutral, it.nextDouble());
+		return neutral;
+	}
+
+	public double sum()
+	{
+		double sum = 0;
+		PrimitiveIterator.OfDouble it = source.accept();
+		while (it.hasNext())
+			sum += it.nextDouble();
+		return sum;
+	}
+
+	public OptionalDouble min()
+	{
+		PrimitiveIterator.OfDouble it = source.accept();
+		if (!it.hasNext())
+			return OptionalDouble.empty();
+		double min = it.nextDouble();
+		while (it.hasNext())
+			min = Math.min(min, it.nextDouble());
+		return OptionalDouble.of(min);
+	}
+
+	public OptionalDouble max()
+	{
+		PrimitiveIterator.OfDouble it = source.accept();
+		if (!it.hasNext())
+			return OptionalDouble.empty();
+		double max = it.nextDouble();
+		while (it.hasNext())
+			max = Math.max(max, it.nextDouble());
+		return OptionalDouble.of(max);
+	}
+
+	/**
+	 * @return average of all elements, or empty if there are none
+	 */
+	public OptionalDouble average()
+	{
+		double sum = 0;
+		long count = 0;
+		PrimitiveIterator.OfDouble it = source.accept();
+		while (it.hasNext())
+		{
+			sum += it.nextDouble();
+			++count;
+		}
+		return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+	}
+
+	/**
+	 * Like collect, but for doubles.
+	 *
+	 * @return elements
+	 */
+	public double[] toArray()
+	{
+		double[] result = new double[16];
+		int size = 0;
+		PrimitiveIterator.OfDouble it = source.accept();
+		while (it.hasNext())
+		{
+			if (size == result.length)
+				result = Arrays.copyOf(result, size * 2);
+			result[size++] = it.nextDouble();
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	public static DoubleMbStream of(double... elements)
+	{
+		return new DoubleMbStream(elements);
+	}
+
+	private static class ArrayIterator implements PrimitiveIterator.OfDouble
+	{
+		private final double[] array;
+		private int index = 0;
+
+		ArrayIterator(double[] array)
+		{
+			this.array = array;
+		}
+
+		@Override public boolean hasNext()
+		{
+			return index < array.length;
+		}
+
+		@Override public double nextDouble()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return array[index++];
+		}
+	}
+}
@@ -0,0 +1,4 @@
+public interface IntMbBifunction
+{
+	int accept(int t, int y);
+}
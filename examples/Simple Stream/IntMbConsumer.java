@@ -0,0 +1,4 @@
+public interface IntMbConsumer
+{
+	void accept(int t);
+}
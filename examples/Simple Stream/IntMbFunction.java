@@ -0,0 +1,4 @@
+public interface IntMbFunction
+{
+	int accept(int t);
+}
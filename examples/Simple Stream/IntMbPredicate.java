@@ -0,0 +1,4 @@
+public interface IntMbPredicate
+{
+	boolean accept(int t);
+}
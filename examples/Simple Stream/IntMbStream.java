@@ -0,0 +1,226 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * MbStream for ints, the elements are never boxed to Integer.
+ */
+public class IntMbStream
+{
+	private final MbSupplier<PrimitiveIterator.OfInt> source;
+
+	/**
+	 * Every stage only wraps the iterator of the previous stream, nothing is evaluated until a terminal
+	 * operation pulls the elements through all stages.
+	 *
+	 * @param source - creates a new iterator over the elements of this stream
+	 */
+	IntMbStream(MbSupplier<PrimitiveIterator.OfInt> source)
+	{
+		this.source = source;
+	}
+
+	public IntMbStream(int[] array)
+	{
+		this(() -> new ArrayIterator(array));
+	}
+
+	public IntMbStream map(IntMbFunction mapper)
+	{
+		return new IntMbStream(() -> {
+			PrimitiveIterator.OfInt it = source.accept();
+			return new PrimitiveIterator.OfInt()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public int nextInt()
+				{
+					return mapper.accept(it.nextInt());
+				}
+			};
+		});
+	}
+
+	public IntMbStream filter(IntMbPredicate pred)
+	{
+		return new IntMbStream(() -> {
+			PrimitiveIterator.OfInt it = source.accept();
+			return new PrimitiveIterator.OfInt()
+			{
+				private int next;
+				private boolean hasNext = false;
+
+				@Override public boolean hasNext()
+				{
+					while (!hasNext && it.hasNext())
+					{
+						int t = it.nextInt();
+						if (pred.accept(t))
+						{
+							next = t;
+							hasNext = true;
+						}
+					}
+					return hasNext;
+				}
+
+				@Override public int nextInt()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					hasNext = false;
+					return next;
+				}
+			};
+		});
+	}
+
+	public IntMbStream limit(long maxSize)
+	{
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize cannot be negative");
+		return new IntMbStream(() -> {
+			PrimitiveIterator.OfInt it = source.accept();
+			return new PrimitiveIterator.OfInt()
+			{
+				private long remaining = maxSize;
+
+				@Override public boolean hasNext()
+				{
+					return remaining > 0 && it.hasNext();
+				}
+
+				@Override public int nextInt()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					--remaining;
+					return it.nextInt();
+				}
+			};
+		});
+	}
+
+	public void foreach(IntMbConsumer consumer)
+	{
+		PrimitiveIterator.OfInt it = source.accept();
+		while (it.hasNext())
+			consumer.accept(it.nextInt());
+	}
+
+	public int reduce(int neutral, IntMbBifunction bifun)
+	{
+		PrimitiveIterator.OfInt it = source.accept();
+		while (it.hasNext())
+			neutral = bifun.accept(neutral, it.nextInt());
+		return neutral;
+	}
+
+	public int sum()
+	{
+		int sum = 0;
+		PrimitiveIterator.OfInt it = source.accept();
+		while (it.hasNext())
+			sum += it.nextInt();
+		return sum;
+	}
+
+	public OptionalInt min()
+	{
+		PrimitiveIterator.OfInt it = source.accept();
+		if (!it.hasNext())
+			return OptionalInt.empty();
+		int min = it.nextInt();
+		while (it.hasNext())
+			min = Math.min(min, it.nextInt());
+		return OptionalInt.of(min);
+	}
+
+	public OptionalInt max()
+	{
+		PrimitiveIterator.OfInt it = source.accept();
+		if (!it.hasNext())
+			return OptionalInt.empty();
+		int max = it.nextInt();
+		while (it.hasNext())
+			max = Math.max(max, it.nextInt());
+		return OptionalInt.of(max);
+	}
+
+	/**
+	 * The sum is computed as a long, so it can't overflow like {@link #sum()} can.
+	 *
+	 * @return average of all elements, or empty if there are none
+	 */
+	public OptionalDouble average()
+	{
+		long sum = 0;
+		long count = 0;
+		PrimitiveIterator.OfInt it = source.accept();
+		while (it.hasNext())
+		{
+			sum += it.nextInt();
+			++count;
+		}
+		return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sum / count);
+	}
+
+	/**
+	 * Like collect, but for ints.
+	 *
+	 * @return elements
+	 */
+	public int[] toArray()
+	{
+		int[] result = new int[16];
+		int size = 0;
+		PrimitiveIterator.OfInt it = source.accept();
+		while (it.hasNext())
+		{
+			if (size == result.length)
+				result = Arrays.copyOf(result, size * 2);
+			result[size++] = it.nextInt();
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	public static IntMbStream of(int... elements)
+	{
+		return new IntMbStream(elements);
+	}
+
+	/**
+	 * @param from - first element (inclusive)
+	 * @param to   - last element (exclusive)
+	 * @return stream from from to to
+	 */
+	public static IntMbStream range(int from, int to)
+	{
+		return new IntMbStream(() -> IntStream.range(from, to).iterator());
+	}
+
+	private static class ArrayIterator implements PrimitiveIterator.OfInt
+	{
+		private final int[] array;
+		private int index = 0;
+
+		ArrayIterator(int[] array)
+		{
+			this.array = array;
+		}
+
+		@Override public boolean hasNext()
+		{
+			return index < array.length;
+		}
+
+		@Override public int nextInt()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return array[index++];
+		}
+	}
+}
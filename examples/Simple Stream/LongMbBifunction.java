@@ -0,0 +1,4 @@
+public interface LongMbBifunction
+{
+	long accept(long t, long y);
+}
@@ -0,0 +1,4 @@
+public interface LongMbConsumer
+{
+	void accept(long t);
+}
@@ -0,0 +1,4 @@
+public interface LongMbFunction
+{
+	long accept(long t);
+}
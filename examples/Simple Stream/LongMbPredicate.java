@@ -0,0 +1,4 @@
+public interface LongMbPredicate
+{
+	boolean accept(long t);
+}
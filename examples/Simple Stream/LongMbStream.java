@@ -0,0 +1,227 @@
+import java.util.*;
+import java.util.stream.LongStream;
+
+/**
+ * MbStream for longs, the elements are never boxed to Long.
+ */
+public class LongMbStream
+{
+	private final MbSupplier<PrimitiveIterator.OfLong> source;
+
+	/**
+	 * Every stage only wraps the iterator of the previous stream, nothing is evaluated until a terminal
+	 * operation pulls the elements through all stages.
+	 *
+	 * @param source - creates a new iterator over the elements of this stream
+	 */
+	LongMbStream(MbSupplier<PrimitiveIterator.OfLong> source)
+	{
+		this.source = source;
+	}
+
+	public LongMbStream(long[] array)
+	{
+		this(() -> new ArrayIterator(array));
+	}
+
+	public LongMbStream map(LongMbFunction mapper)
+	{
+		return new LongMbStream(() -> {
+			PrimitiveIterator.OfLong it = source.accept();
+			return new PrimitiveIterator.OfLong()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public long nextLong()
+				{
+					return mapper.accept(it.nextLong());
+				}
+			};
+		});
+	}
+
+	public LongMbStream filter(LongMbPredicate pred)
+	{
+		return new LongMbStream(() -> {
+			PrimitiveIterator.OfLong it = source.accept();
+			return new PrimitiveIterator.OfLong()
+			{
+				private long next;
+				private boolean hasNext = false;
+
+				@Override public boolean hasNext()
+				{
+					while (!hasNext && it.hasNext())
+					{
+						long t = it.nextLong();
+						if (pred.accept(t))
+						{
+							next = t;
+							hasNext = true;
+						}
+					}
+					return hasNext;
+				}
+
+				@Override public long nextLong()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					hasNext = false;
+					return next;
+				}
+			};
+		});
+	}
+
+	public LongMbStream limit(long maxSize)
+	{
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize cannot be negative");
+		return new LongMbStream(() -> {
+			PrimitiveIterator.OfLong it = source.accept();
+			return new PrimitiveIterator.OfLong()
+			{
+				private long remaining = maxSize;
+
+				@Override public boolean hasNext()
+				{
+					return remaining > 0 && it.hasNext();
+				}
+
+				@Override public long nextLong()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					--remaining;
+					return it.nextLong();
+				}
+			};
+		});
+	}
+
+	public void foreach(LongMbConsumer consumer)
+	{
+		PrimitiveIterator.OfLong it = source.accept();
+		while (it.hasNext())
+			consumer.accept(it.nextLong());
+	}
+
+	public long reduce(long neutral, LongMbBifunction bifun)
+	{
+		PrimitiveIterator.OfLong it = source.accept();
+		while (it.hasNext())
+			neutral = bifun.accept(neutral, it.nextLong());
+		return neutral;
+	}
+
+	public long sum()
+	{
+		long sum = 0;
+		PrimitiveIterator.OfLong it = source.accept();
+		while (it.hasNext())
+			sum += it.nextLong();
+		return sum;
+	}
+
+	public OptionalLong min()
+	{
+		PrimitiveIterator.OfLong it = source.accept();
+		if (!it.hasNext())
+			return OptionalLong.empty();
+		long min = it.nextLong();
+		while (it.hasNext())
+			min = Math.min(min, it.nextLong());
+		return OptionalLong.of(min);
+	}
+
+	public OptionalLong max()
+	{
+		PrimitiveIterator.OfLong it = source.accept();
+		if (!it.hasNext())
+			return OptionalLong.empty();
+		long max = it.nextLong();
+		while (it.hasNext())
+			max = Math.max(max, it.nextLong());
+		return OptionalLong.of(max);
+	}
+
+	/**
+	 * The sum is computed as a double, so it can't overflow like {@link #sum()} can, but is rounded for
+	 * elements beyond 2^53.
+	 *
+	 * @return average of all elements, or empty if there are none
+	 */
+	public OptionalDouble average()
+	{
+		double sum = 0;
+		long count = 0;
+		PrimitiveIterator.OfLong it = source.accept();
+		while (it.hasNext())
+		{
+			sum += it.nextLong();
+			++count;
+		}
+		return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+	}
+
+	/**
+	 * Like collect, but for longs.
+	 *
+	 * @return elements
+	 */
+	public long[] toArray()
+	{
+		long[] result = new long[16];
+		int size = 0;
+		PrimitiveIterator.OfLong it = source.accept();
+		while (it.hasNext())
+		{
+			if (size == result.length)
+				result = Arrays.copyOf(result, size * 2);
+			result[size++] = it.nextLong();
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	public static LongMbStream of(long... elements)
+	{
+		return new LongMbStream(elements);
+	}
+
+	/**
+	 * @param from - first element (inclusive)
+	 * @param to   - last element (exclusive)
+	 * @return stream from from to to
+	 */
+	public static LongMbStream range(long from, long to)
+	{
+		return new LongMbStream(() -> LongStream.range(from, to).iterator());
+	}
+
+	private static class ArrayIterator implements PrimitiveIterator.OfLong
+	{
+		private final long[] array;
+		private int index = 0;
+
+		ArrayIterator(long[] array)
+		{
+			this.array = array;
+		}
+
+		@Override public boolean hasNext()
+		{
+			return index < array.length;
+		}
+
+		@Override public long nextLong()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return array[index++];
+		}
+	}
+}
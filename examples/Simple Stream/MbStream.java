@@ -1,57 +1,592 @@
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class MbStream<T>
 {
-	private Collection<T> elements;
+	private final MbSupplier<Spliterator<?>> source;
+	private final MbFunction<Spliterator<?>, Iterator<T>> pipeline;
+	private final int characteristics;
+	private final boolean splittable;
+	private final ForkJoinPool pool;
 
 	public MbStream(Collection<T> collection)
 	{
-		elements = collection;
+		this(collection::spliterator);
+	}
+
+	@SuppressWarnings("unchecked")
+	private MbStream(MbSupplier<Spliterator<?>> source)
+	{
+		this(source, sp -> (Iterator<T>) Spliterators.iterator(sp),
+				Spliterator.SIZED | Spliterator.SORTED | Spliterator.DISTINCT, true, null);
+	}
+
+	/**
+	 * Every stage only wraps the pipeline of the previous stream, nothing is evaluated until a terminal
+	 * operation pulls the elements through all stages, one element at a time.
+	 *
+	 * @param source          - creates the spliterator over the source, shared by all stages
+	 * @param pipeline        - turns the spliterator over the source into an iterator over this stream
+	 * @param characteristics - characteristics of the source that are still true after the pipeline,
+	 *                        only SIZED, SORTED and DISTINCT are used
+	 * @param splittable      - false if the pipeline gives wrong results when it runs on parts of the source
+	 * @param pool            - pool for parallel evaluation, null if sequential
+	 */
+	private MbStream(MbSupplier<Spliterator<?>> source, MbFunction<Spliterator<?>, Iterator<T>> pipeline,
+			int characteristics, boolean splittable, ForkJoinPool pool)
+	{
+		this.source = source;
+		this.pipeline = pipeline;
+		this.characteristics = characteristics;
+		this.splittable = splittable;
+		this.pool = pool;
 	}
 
 	public <K> MbStream<K> map(MbFunction<T, K> mapper)
 	{
-		List<K> newList = new ArrayList<>();
-		for (T t : elements)
-			newList.add(mapper.accept(t));
-		return new MbStream<K>(newList);
+		return new MbStream<>(source, sp -> new MapIterator<>(pipeline.accept(sp), mapper),
+				characteristics & ~(Spliterator.SORTED | Spliterator.DISTINCT), splittable, pool);
 	}
 
 	public MbStream<T> filter(MbPredicate<T> pred)
 	{
-		List<T> newList = new ArrayList<>();
-		for (T t : elements)
-			if (pred.accept(t))
-				newList.add(t);
-		return new MbStream<T>(newList);
+		return new MbStream<>(source, sp -> new FilterIterator<>(pipeline.accept(sp), pred),
+				characteristics & ~Spliterator.SIZED, splittable, pool);
+	}
+
+	/**
+	 * Does nothing if the source is known to be DISTINCT. If it is SORTED in natural order, only the previous
+	 * element is remembered, otherwise all elements seen so far. A comparator doesn't have to be consistent with
+	 * equals, so equal elements aren't necessarily next to each other in a source sorted by one.
+	 *
+	 * @return stream without duplicates
+	 */
+	public MbStream<T> distinct()
+	{
+		return new MbStream<>(source, sp -> {
+			int known = sp.characteristics() & characteristics;
+			if ((known & Spliterator.DISTINCT) != 0)
+				return pipeline.accept(sp);
+			if ((known & Spliterator.SORTED) != 0 && sp.getComparator() == null)
+				return new SortedDistinctIterator<>(pipeline.accept(sp));
+			Set<T> seen = new HashSet<>();
+			return new FilterIterator<>(pipeline.accept(sp), seen::add);
+		}, characteristics & ~Spliterator.SIZED, false, pool);
+	}
+
+	/**
+	 * In parallel mode, the source is split into parts, and reduce, foreach and collect run all stages on every
+	 * part in the common ForkJoinPool. All functions passed to the stream must be thread-safe.
+	 * <p>
+	 * The other terminal operations, and streams after a call to limit or distinct, still run sequentially.
+	 *
+	 * @return parallel stream
+	 */
+	public MbStream<T> parallel()
+	{
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Like {@link #parallel()}, but runs in the given pool.
+	 *
+	 * @param pool - pool to run in
+	 * @return parallel stream
+	 */
+	public MbStream<T> parallel(ForkJoinPool pool)
+	{
+		return new MbStream<>(source, pipeline, characteristics, splittable, Objects.requireNonNull(pool));
+	}
+
+	public MbStream<T> sequential()
+	{
+		return new MbStream<>(source, pipeline, characteristics, splittable, null);
+	}
+
+	public boolean isParallel()
+	{
+		return pool != null;
+	}
+
+	public IntMbStream mapToInt(ToIntMbFunction<T> mapper)
+	{
+		return new IntMbStream(() -> {
+			Iterator<T> it = iterator();
+			return new PrimitiveIterator.OfInt()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public int nextInt()
+				{
+					return mapper.accept(it.next());
+				}
+			};
+		});
+	}
+
+	public LongMbStream mapToLong(ToLongMbFunction<T> mapper)
+	{
+		return new LongMbStream(() -> {
+			Iterator<T> it = iterator();
+			return new PrimitiveIterator.OfLong()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public long nextLong()
+				{
+					return mapper.accept(it.next());
+				}
+			};
+		});
+	}
+
+	public DoubleMbStream mapToDouble(ToDoubleMbFunction<T> mapper)
+	{
+		return new DoubleMbStream(() -> {
+			Iterator<T> it = iterator();
+			return new PrimitiveIterator.OfDouble()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasNext();
+				}
+
+				@Override public double nextDouble()
+				{
+					return mapper.accept(it.next());
+				}
+			};
+		});
 	}
 
+	/**
+	 * Short-circuiting: once maxSize elements have passed, no more elements are pulled from the source.
+	 *
+	 * @param maxSize - maximum number of elements
+	 * @return stream with at most maxSize elements
+	 */
+	public MbStream<T> limit(long maxSize)
+	{
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize cannot be negative");
+		// every part would keep maxSize elements, so this can't be split anymore
+		return new MbStream<>(source, sp -> new LimitIterator<>(pipeline.accept(sp), maxSize),
+				characteristics & ~Spliterator.SIZED, false, pool);
+	}
+
+	/**
+	 * In parallel mode, the consumer is called from multiple threads, in no particular order.
+	 *
+	 * @param consumer - consumer
+	 */
 	public void foreach(MbConsumer<T> consumer)
 	{
-		for (T t : elements)
-			consumer.accept(t);
+		evaluate(it -> {
+			while (it.hasNext())
+				consumer.accept(it.next());
+			return null;
+		}, (a, b) -> null);
 	}
 
+	/**
+	 * In parallel mode, every part of the source is reduced starting with neutral, and the results of the parts are
+	 * combined with bifun again. This only gives the same result as sequential mode if
+	 * <ul>
+	 * <li>neutral is an identity: {@code bifun.accept(neutral, t)} equals t, and</li>
+	 * <li>bifun is associative: {@code bifun.accept(bifun.accept(a, b), c)} equals
+	 * {@code bifun.accept(a, bifun.accept(b, c))}.</li>
+	 * </ul>
+	 * Sum with 0 and product with 1 are fine, difference isn't.
+	 *
+	 * @param neutral - identity of bifun
+	 * @param bifun   - associative function
+	 * @return result
+	 */
 	public T reduce(T neutral, MbBifunction<T, T, T> bifun)
 	{
-		for (T t : elements)
-			neutral = bifun.accept(neutral, t);
-		return neutral;
+		return evaluate(it -> {
+			T result = neutral;
+			while (it.hasNext())
+				result = bifun.accept(result, it.next());
+			return result;
+		}, bifun);
 	}
 
 	/**
-	 * Not like the real implementation of collect, this just returns the elements directly.
+	 * Not like the real implementation of collect, this just puts the elements into a new List.
+	 * The order is the same in parallel mode. If the size is known, the list is created with that capacity.
 	 *
 	 * @return elements
 	 */
 	public Collection<T> collect()
 	{
-		return elements;
+		// in parallel mode, every part has its own list, so the size of the whole source doesn't help
+		long size = pool == null ? knownSize() : -1;
+		return evaluate(it -> {
+			List<T> result = size < 0 ?
+					new ArrayList<>() :
+					new ArrayList<>((int) Math.min(size, Integer.MAX_VALUE - 8));
+			while (it.hasNext())
+				result.add(it.next());
+			return result;
+		}, (a, b) -> {
+			a.addAll(b);
+			return a;
+		});
+	}
+
+	/**
+	 * If the size of the source is known, and there is no stage that removes elements, the size is returned
+	 * without pulling any elements, so map functions are not called.
+	 *
+	 * @return number of elements
+	 */
+	public long count()
+	{
+		long size = knownSize();
+		if (size >= 0)
+			return size;
+		return evaluate(it -> {
+			long count = 0;
+			for (; it.hasNext(); it.next())
+				++count;
+			return count;
+		}, Long::sum);
+	}
+
+	/**
+	 * Short-circuiting: stops after the first element, the rest of the source is never mapped or filtered.
+	 *
+	 * @return first element, or empty if there is none
+	 * @throws NullPointerException if the first element is null
+	 */
+	public Optional<T> findFirst()
+	{
+		Iterator<T> it = iterator();
+		return it.hasNext() ? Optional.of(it.next()) : Optional.empty();
+	}
+
+	/**
+	 * Short-circuiting: stops at the first element that matches.
+	 *
+	 * @param pred - predicate
+	 * @return true if any element matches
+	 */
+	public boolean anyMatch(MbPredicate<T> pred)
+	{
+		Iterator<T> it = iterator();
+		while (it.hasNext())
+			if (pred.accept(it.next()))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Short-circuiting: stops at the first element that doesn't match.
+	 *
+	 * @param pred - predicate
+	 * @return true if all elements match, or if there are no elements
+	 */
+	public boolean allMatch(MbPredicate<T> pred)
+	{
+		Iterator<T> it = iterator();
+		while (it.hasNext())
+			if (!pred.accept(it.next()))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Short-circuiting: stops at the first element that matches.
+	 *
+	 * @param pred - predicate
+	 * @return true if no element matches, or if there are no elements
+	 */
+	public boolean noneMatch(MbPredicate<T> pred)
+	{
+		return !anyMatch(pred);
+	}
+
+	/**
+	 * @return number of elements of this stream if the source is SIZED and no stage removes elements, otherwise -1
+	 */
+	private long knownSize()
+	{
+		Spliterator<?> sp = source.accept();
+		if ((sp.characteristics() & characteristics & Spliterator.SIZED) != 0)
+			return sp.getExactSizeIfKnown();
+		return -1;
+	}
+
+	private Iterator<T> iterator()
+	{
+		return pipeline.accept(source.accept());
+	}
+
+	/**
+	 * Runs part on the whole source if sequential, otherwise on parts of the source in the pool.
+	 *
+	 * @param part     - computes the result for the elements of a part
+	 * @param combiner - combines the results of two neighbouring parts, left first
+	 * @return result
+	 */
+	private <R> R evaluate(MbFunction<Iterator<T>, R> part, MbBifunction<R, R, R> combiner)
+	{
+		if (pool == null || !splittable)
+			return part.accept(iterator());
+		Spliterator<?> sp = source.accept();
+		long threshold = Math.max(sp.estimateSize() / (pool.getParallelism() * 4L), 1);
+		return pool.invoke(new PartTask<>(sp, threshold, part, combiner));
+	}
+
+	private class PartTask<R> extends RecursiveTask<R>
+	{
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 4390563274013357713L;
+
+		private final Spliterator<?> source;
+		private final long threshold;
+		private final MbFunction<Iterator<T>, R> part;
+		private final MbBifunction<R, R, R> combiner;
+
+		PartTask(Spliterator<?> source, long threshold, MbFunction<Iterator<T>, R> part,
+				MbBifunction<R, R, R> combiner)
+		{
+			this.source = source;
+			this.threshold = threshold;
+			this.part = part;
+			this.combiner = combiner;
+		}
+
+		@Override protected R compute()
+		{
+			Spliterator<?> prefix;
+			if (source.estimateSize() <= threshold || (prefix = source.trySplit()) == null)
+				return part.accept(pipeline.accept(source));
+			PartTask<R> left = new PartTask<>(prefix, threshold, part, combiner);
+			left.fork();
+			R right = new PartTask<>(source, threshold, part, combiner).compute();
+			return combiner.accept(left.join(), right);
+		}
 	}
 
 	public static <K> MbStream<K> of(K[] elements)
 	{
 		return new MbStream<>(Arrays.asList(elements));
 	}
+
+	/**
+	 * The characteristics of the spliterator (SIZED, SORTED, DISTINCT) are used to skip work.
+	 * The stream can only be evaluated once, because the spliterator can't be reset.
+	 *
+	 * @param spliterator - source
+	 * @return stream over the elements of spliterator
+	 */
+	public static <K> MbStream<K> of(Spliterator<K> spliterator)
+	{
+		return new MbStream<>(() -> spliterator);
+	}
+
+	/**
+	 * The stream can only be evaluated once, because the iterator can't be reset.
+	 *
+	 * @param iterator - source
+	 * @return stream over the remaining elements of iterator
+	 */
+	public static <K> MbStream<K> of(Iterator<K> iterator)
+	{
+		return of(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED));
+	}
+
+	/**
+	 * @param from - first element (inclusive)
+	 * @param to   - last element (exclusive)
+	 * @return sized, sorted and distinct stream from from to to
+	 */
+	public static MbStream<Integer> range(int from, int to)
+	{
+		return new MbStream<>(() -> IntStream.range(from, to).spliterator());
+	}
+
+	/**
+	 * Infinite stream, use limit or a short-circuiting terminal operation.
+	 *
+	 * @param generator - creates the elements
+	 * @return stream of generated elements
+	 */
+	public static <K> MbStream<K> generate(MbSupplier<K> generator)
+	{
+		return new MbStream<>(() -> new Spliterators.AbstractSpliterator<K>(Long.MAX_VALUE, Spliterator.ORDERED)
+		{
+			@Override public boolean tryAdvance(Consumer<? super K> action)
+			{
+				action.accept(generator.accept());
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Infinite stream of seed, next(seed), next(next(seed)), ...
+	 * Use limit or a short-circuiting terminal operation.
+	 *
+	 * @param seed - first element
+	 * @param next - computes an element from the previous one
+	 * @return stream of seed and its successors
+	 */
+	public static <K> MbStream<K> iterate(K seed, MbFunction<K, K> next)
+	{
+		return new MbStream<>(() -> new Spliterators.AbstractSpliterator<K>(Long.MAX_VALUE, Spliterator.ORDERED)
+		{
+			private K current = seed;
+			private boolean started = false;
+
+			@Override public boolean tryAdvance(Consumer<? super K> action)
+			{
+				if (started)
+					current = next.accept(current);
+				started = true;
+				action.accept(current);
+				return true;
+			}
+		});
+	}
+
+	private static class MapIterator<T, K> implements Iterator<K>
+	{
+		private final Iterator<T> source;
+		private final MbFunction<T, K> mapper;
+
+		MapIterator(Iterator<T> source, MbFunction<T, K> mapper)
+		{
+			this.source = source;
+			this.mapper = mapper;
+		}
+
+		@Override public boolean hasNext()
+		{
+			return source.hasNext();
+		}
+
+		@Override public K next()
+		{
+			return mapper.accept(source.next());
+		}
+	}
+
+	private static class FilterIterator<T> implements Iterator<T>
+	{
+		private final Iterator<T> source;
+		private final MbPredicate<T> pred;
+		private T next;
+		private boolean hasNext = false;
+
+		FilterIterator(Iterator<T> source, MbPredicate<T> pred)
+		{
+			this.source = source;
+			this.pred = pred;
+		}
+
+		@Override public boolean hasNext()
+		{
+			while (!hasNext && source.hasNext())
+			{
+				T t = source.next();
+				if (pred.accept(t))
+				{
+					next = t;
+					hasNext = true;
+				}
+			}
+			return hasNext;
+		}
+
+		@Override public T next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			hasNext = false;
+			T t = next;
+			next = null;
+			return t;
+		}
+	}
+
+	private static class LimitIterator<T> implements Iterator<T>
+	{
+		private final Iterator<T> source;
+		private long remaining;
+
+		LimitIterator(Iterator<T> source, long maxSize)
+		{
+			this.source = source;
+			this.remaining = maxSize;
+		}
+
+		@Override public boolean hasNext()
+		{
+			// check remaining first, so the source isn't asked for (and doesn't compute) one element too many
+			return remaining > 0 && source.hasNext();
+		}
+
+		@Override public T next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			--remaining;
+			return source.next();
+		}
+	}
+
+	/**
+	 * Only works if equal elements are next to each other, like in a source sorted in natural order.
+	 */
+	private static class SortedDistinctIterator<T> implements Iterator<T>
+	{
+		private final Iterator<T> source;
+		private T previous;
+		private boolean first = true;
+		private T next;
+		private boolean hasNext = false;
+
+		SortedDistinctIterator(Iterator<T> source)
+		{
+			this.source = source;
+		}
+
+		@Override public boolean hasNext()
+		{
+			while (!hasNext && source.hasNext())
+			{
+				T t = source.next();
+				if (first || !Objects.equals(previous, t))
+				{
+					first = false;
+					previous = t;
+					next = t;
+					hasNext = true;
+				}
+			}
+			return hasNext;
+		}
+
+		@Override public T next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+			hasNext = false;
+			return next;
+		}
+	}
 }
@@ -0,0 +1,4 @@
+public interface MbSupplier<T>
+{
+	T accept();
+}
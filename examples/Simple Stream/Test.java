@@ -11,6 +11,11 @@ public class Test
 
 		System.out.println(sum);
 
+		// the same, but without boxing every element to an Integer:
+		int primitiveSum = stream.mapToInt(Integer::parseInt).filter(e -> e % 2 == 0).sum();
+
+		System.out.println(primitiveSum);
+
 		// The following functions are all equivalent:
 		Function<String, Integer> fun1 = String::length;
 
@@ -0,0 +1,4 @@
+public interface ToDoubleMbFunction<T>
+{
+	double accept(T t);
+}
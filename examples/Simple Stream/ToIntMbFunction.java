@@ -0,0 +1,4 @@
+public interface ToIntMbFunction<T>
+{
+	int accept(T t);
+}
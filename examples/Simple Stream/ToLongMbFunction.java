@@ -0,0 +1,4 @@
+public interface ToLongMbFunction<T>
+{
+	long accept(T t);
+}
@@ -0,0 +1,90 @@
+package pgdp.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that SimplePaint.buildFromImage reads every supported image type with the same colors as
+ * BufferedImage.getRGB.
+ */
+public class MbTestSimplePaint
+{
+	// change these parameters
+	private static final boolean USE_RANDOM_SEED = false;
+	private static final Random RANDOM = new Random(USE_RANDOM_SEED ? System.currentTimeMillis() : 1337);
+	// -----------------------
+
+	private static void assertSameAsGetRGB(BufferedImage image)
+	{
+		QuadTreeKnoten tree = SimplePaint.buildFromImage(image);
+		for (int y = 0; y < image.getHeight(); y++)
+		{
+			for (int x = 0; x < image.getWidth(); x++)
+			{
+				assertEquals(image.getRGB(x, y) % 0x1000000, tree.getRelativeColor(x, y),
+						"Wrong color at (" + x + ", " + y + ") for image type " + image.getType());
+			}
+		}
+	}
+
+	private static BufferedImage randomImage(int type, int width, int height)
+	{
+		BufferedImage image = new BufferedImage(width, height, type);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				image.setRGB(x, y, RANDOM.nextInt());
+			}
+		}
+		return image;
+	}
+
+	@Test public void testAllGrayLevels()
+	{
+		BufferedImage image = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+		for (int x = 0; x < 256; x++)
+		{
+			image.getRaster().setSample(x, 0, 0, x);
+		}
+		assertSameAsGetRGB(image);
+	}
+
+	@Test public void testImageTypes()
+	{
+		int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+				BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_INT_BGR,
+				BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_USHORT_GRAY};
+		for (int type : types)
+		{
+			assertSameAsGetRGB(randomImage(type, 13, 7));
+		}
+	}
+
+	@Test public void testSubimages()
+	{
+		int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+				BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_GRAY};
+		for (int type : types)
+		{
+			assertSameAsGetRGB(randomImage(type, 13, 7).getSubimage(2, 1, 9, 5));
+		}
+	}
+
+	@Test public void testIntRgbIgnoresTopByte()
+	{
+		BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 4; y++)
+		{
+			for (int x = 0; x < 4; x++)
+			{
+				image.getRaster().setDataElements(x, y, new int[] {RANDOM.nextInt()});
+			}
+		}
+		assertSameAsGetRGB(image);
+	}
+}
@@ -7,6 +7,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 
@@ -33,17 +34,96 @@ public class SimplePaint implements Runnable
 			dimensions *= 2;
 		}
 		int[][] imageData = new int[dimensions][dimensions];
-		for (int i = image.getMinX(); i < image.getWidth(); i++)
+		if (!readRaster(image, imageData))
 		{
 			for (int j = image.getMinY(); j < image.getHeight(); j++)
 			{
-				// Remove alpha channel if it exists
-				imageData[j][i] = image.getRGB(i, j) % 0x1000000;
+				for (int i = image.getMinX(); i < image.getWidth(); i++)
+				{
+					// Remove alpha channel if it exists
+					imageData[j][i] = image.getRGB(i, j) % 0x1000000;
+				}
 			}
 		}
 		return QuadTreeKnotenImpl.buildFromIntArray(imageData);
 	}
 
+	/**
+	 * Reads common image types row by row directly from the raster, instead of converting every pixel through the
+	 * color model like getRGB does. The result is the same as with getRGB.
+	 *
+	 * @param image     - image to read
+	 * @param imageData - array to write the pixels into, at least as big as the image
+	 * @return false if the image type isn't supported, imageData is unchanged then
+	 */
+	private static boolean readRaster(BufferedImage image, int[][] imageData)
+	{
+		Raster raster = image.getRaster();
+		int width = image.getWidth();
+		int height = image.getHeight();
+		switch (image.getType())
+		{
+		case BufferedImage.TYPE_INT_RGB:
+		case BufferedImage.TYPE_INT_ARGB:
+		{
+			boolean hasAlpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+			for (int j = 0; j < height; j++)
+			{
+				int[] row = imageData[j];
+				raster.getDataElements(0, j, width, 1, row);
+				for (int i = 0; i < width; i++)
+				{
+					int argb = hasAlpha ? row[i] : 0xff000000 | row[i] & 0xffffff;
+					// Remove alpha channel if it exists
+					row[i] = argb % 0x1000000;
+				}
+			}
+			return true;
+		}
+		case BufferedImage.TYPE_3BYTE_BGR:
+		case BufferedImage.TYPE_4BYTE_ABGR:
+		{
+			// getDataElements returns the bands in order r, g, b (, a)
+			int bands = image.getType() == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+			byte[] row = new byte[width * bands];
+			for (int j = 0; j < height; j++)
+			{
+				raster.getDataElements(0, j, width, 1, row);
+				for (int i = 0, k = 0; i < width; i++, k += bands)
+				{
+					int alpha = bands == 3 ? 0xff : row[k + 3] & 0xff;
+					int rgb = alpha << 24 | (row[k] & 0xff) << 16 | (row[k + 1] & 0xff) << 8 | row[k + 2] & 0xff;
+					// Remove alpha channel if it exists
+					imageData[j][i] = rgb % 0x1000000;
+				}
+			}
+			return true;
+		}
+		case BufferedImage.TYPE_BYTE_GRAY:
+		{
+			// the gray color space isn't sRGB, so let the color model convert every possible value once,
+			// with the same getRGB(Object) that BufferedImage.getRGB uses
+			int[] lookup = new int[256];
+			for (int v = 0; v < lookup.length; v++)
+			{
+				lookup[v] = image.getColorModel().getRGB(new byte[] {(byte) v}) % 0x1000000;
+			}
+			byte[] row = new byte[width];
+			for (int j = 0; j < height; j++)
+			{
+				raster.getDataElements(0, j, width, 1, row);
+				for (int i = 0; i < width; i++)
+				{
+					imageData[j][i] = lookup[row[i] & 0xff];
+				}
+			}
+			return true;
+		}
+		default:
+			return false;
+		}
+	}
+
 	@Override public void run()
 	{
 		final JFrame window = new JFrame("Praktikum Grundlagen der Pinguine");
@@ -245,7 +325,7 @@ public class SimplePaint implements Runnable
 			{
 				for (int y = fromY; toY > fromY ? y <= toY : y >= toY; )
 				{
-					this.tree.setRelativeColor(fromX, y, this.currentColor);
+					this.setPixel(fromX, y);
 					if (toY > fromY)
 					{
 						y++;
@@ -261,11 +341,11 @@ public class SimplePaint implements Runnable
 			int y = fromY;
 			for (int x = fromX; toX > fromX ? x <= toX : x >= toX; )
 			{
-				this.tree.setRelativeColor(x, y, this.currentColor);
+				this.setPixel(x, y);
 				error += deltaError;
 				while (error >= 0.5)
 				{
-					this.tree.setRelativeColor(x, y, this.currentColor);
+					this.setPixel(x, y);
 					y = Math.min(Math.max(y + (toY > fromY ? 1 : -1), 0), this.tree.getDimension() - 1);
 					error -= 1.0;
 				}
@@ -278,5 +358,18 @@ public class SimplePaint implements Runnable
 				}
 			}
 		}
+
+		/**
+		 * Only writes into the tree if the color actually changes. Otherwise every drag over an already painted
+		 * area, and every repeated write inside the error loop of drawLine, would split nodes in the tree that
+		 * have the right color already.
+		 */
+		private void setPixel(int x, int y)
+		{
+			if (this.tree.getRelativeColor(x, y) != this.currentColor)
+			{
+				this.tree.setRelativeColor(x, y, this.currentColor);
+			}
+		}
 	}
 }
\ No newline at end of file